@@ -6,6 +6,8 @@
 
 package org.example;
 
+import org.example.restart.RestartPolicy;
+import org.example.restart.RestartSearch;
 import org.maxicp.cp.CPFactory;
 import org.maxicp.cp.engine.core.CPIntVar;
 import org.maxicp.cp.engine.core.CPIntervalVar;
@@ -37,15 +39,20 @@ public class JobShop {
         return Arrays.stream(x).flatMap(Arrays::stream).toArray(CPIntervalVar[]::new);
     }
 
-    public static void main(String[] args) {
-        JobShopInstance instance = new JobShopInstance("data/JOBSHOP/jobshop-9-9-0");
+    public final CPSolver cp;
+    public final CPIntervalVar[] activities;
+    public final CPIntVar makespan;
+    public final Objective obj;
+
+    public JobShop(String path) {
+        JobShopInstance instance = new JobShopInstance(path);
 
         int nJobs = instance.nJobs;
         int nMachines = instance.nMachines;
         int[][] duration = instance.duration;
         int[][] machine = instance.machine;
 
-        CPSolver cp = CPFactory.makeSolver();
+        cp = CPFactory.makeSolver();
 
         // create activities
         CPIntervalVar[][] activities = new CPIntervalVar[nJobs][nMachines];
@@ -79,19 +86,39 @@ public class JobShop {
         CPIntervalVar[] lasts = Arrays.stream(activities)
                 .map(job -> job[nMachines - 1])
                 .toArray(CPIntervalVar[]::new);
-        CPIntVar makespan = CPFactory.makespan(lasts);
+        makespan = CPFactory.makespan(lasts);
+
+        obj = cp.minimize(makespan);
 
-        Objective obj = cp.minimize(makespan);
+        this.activities = flatten(activities);
+    }
 
-        CPIntervalVar[] allActivities = flatten(activities);
+    /**
+     * Solves the instance with the plain setTimes dfs,
+     * or with a {@link RestartSearch} if the first argument is "restart".
+     */
+    public static void main(String[] args) {
+        JobShop model = new JobShop("data/JOBSHOP/jobshop-9-9-0");
+        CPIntVar makespan = model.makespan;
+
+        if (args.length > 0 && args[0].equals("restart")) {
+            RestartSearch search = new RestartSearch(model.cp, model.activities,
+                    RestartPolicy.luby(100), RestartSearch.Selection.LAST_CONFLICT);
+            search.onSolution(() -> {
+                System.out.println("makespan:" + makespan);
+            });
+            RestartSearch.Statistics stats = search.optimize(model.obj);
+            System.out.format("Statistics: %s\n", stats);
+            return;
+        }
 
-        DFSearch dfs = CPFactory.makeDfs(cp, setTimes(allActivities));
+        DFSearch dfs = CPFactory.makeDfs(model.cp, setTimes(model.activities));
 
 
         dfs.onSolution(() -> {
             System.out.println("makespan:" + makespan);
         });
-        SearchStatistics stats = dfs.optimize(obj);
+        SearchStatistics stats = dfs.optimize(model.obj);
         System.out.format("Statistics: %s\n", stats);
     }
 
@@ -6,6 +6,8 @@
 
 package org.example;
 
+import org.example.restart.RestartPolicy;
+import org.example.restart.RestartSearch;
 import org.maxicp.cp.CPFactory;
 import org.maxicp.cp.engine.constraints.scheduling.*;
 import org.maxicp.cp.engine.core.CPIntVar;
@@ -27,9 +29,14 @@ import static org.maxicp.search.Searches.*;
  */
 public class RCPSP {
 
-    public static void main(String[] args) {
+    public final CPSolver cp;
+    public final CPIntervalVar[] tasks;
+    public final CPIntVar makespan;
+    public final Objective obj;
+
+    public RCPSP(String path) {
         // Reading the data
-        InputReader reader = new InputReader("data/RCPSP/j30_1_1.rcp");
+        InputReader reader = new InputReader(path);
 
         int nActivities = reader.getInt();
         int nResources = reader.getInt();
@@ -59,9 +66,9 @@ public class RCPSP {
 
         // The Model
 
-        CPSolver cp = makeSolver();
+        cp = makeSolver();
 
-        CPIntervalVar[] tasks = makeIntervalVarArray(cp, nActivities);
+        tasks = makeIntervalVarArray(cp, nActivities);
 
         for (int i = 0; i < nActivities; i++) {
             tasks[i].setLength(duration[i]);
@@ -92,21 +99,53 @@ public class RCPSP {
             }
         }
 
-        CPIntVar makespan = makespan(tasks);
+        makespan = makespan(tasks);
 
-        Objective obj = cp.minimize(makespan);
+        obj = cp.minimize(makespan);
+    }
 
-        Supplier<Runnable[]> fixMakespan = () -> makespan.isFixed() ? EMPTY : new Runnable[]{() -> {
+    /**
+     * Branching fixing the makespan to its minimum, once the tasks are fixed.
+     */
+    public Supplier<Runnable[]> fixMakespan() {
+        return () -> makespan.isFixed() ? EMPTY : new Runnable[]{() -> {
             cp.post(CPFactory.eq(makespan, makespan.min()));
         }};
+    }
+
+    /**
+     * The plain setTimes branching, completed by fixing the makespan.
+     */
+    public Supplier<Runnable[]> setTimesSearch() {
+        return and(setTimes(tasks, i -> i), fixMakespan());
+    }
+
+    /**
+     * Solves the instance with the plain setTimes dfs,
+     * or with a {@link RestartSearch} if the first argument is "restart".
+     */
+    public static void main(String[] args) {
+        RCPSP model = new RCPSP("data/RCPSP/j30_1_1.rcp");
+        CPIntVar makespan = model.makespan;
+
+        if (args.length > 0 && args[0].equals("restart")) {
+            RestartSearch search = new RestartSearch(model.cp, model.tasks,
+                    RestartPolicy.luby(100), RestartSearch.Selection.DOM_WDEG, model.fixMakespan());
+            search.onSolution(() -> {
+                System.out.println("makespan:" + makespan);
+            });
+            RestartSearch.Statistics stats = search.optimize(model.obj);
+            System.out.format("Statistics: %s\n", stats);
+            return;
+        }
 
-        DFSearch dfs = CPFactory.makeDfs(cp, and(setTimes(tasks, i -> i), fixMakespan));
+        DFSearch dfs = CPFactory.makeDfs(model.cp, model.setTimesSearch());
 
         dfs.onSolution(() -> {
             System.out.println("makespan:" + makespan);
         });
 
-        SearchStatistics stats = dfs.optimize(obj);
+        SearchStatistics stats = dfs.optimize(model.obj);
 
         System.out.format("Statistics: %s\n", stats);
     }
@@ -0,0 +1,137 @@
+/*
+ * MaxiCP is under MIT License
+ * Copyright (c)  2024 UCLouvain
+ *
+ */
+
+package org.example;
+
+import org.example.restart.RestartPolicy;
+import org.example.restart.RestartSearch;
+import org.maxicp.cp.CPFactory;
+import org.maxicp.cp.engine.core.CPIntVar;
+import org.maxicp.cp.engine.core.CPIntervalVar;
+import org.maxicp.cp.engine.core.CPSolver;
+import org.maxicp.search.DFSearch;
+import org.maxicp.search.Objective;
+import org.maxicp.search.SearchStatistics;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.maxicp.search.Searches.EMPTY;
+import static org.maxicp.search.Searches.setTimes;
+
+/**
+ * Compares the time to reach (and prove) the best makespan of the plain setTimes dfs
+ * with the ones of the {@link RestartSearch} variants,
+ * on the shipped JobShop and PSPLIB instances.
+ * The "norestart" variants use the branching of {@link RestartSearch} in a single run,
+ * so that the effect of the restarts and nogoods is separated from the one of the branching.
+ *
+ * <p>Usage: {@code RestartBenchmark [timeLimitInSeconds] [instance ...]},
+ * all the files of data/JOBSHOP and data/RCPSP are run when no instance is given.
+ * The instances ending with .rcp are RCPSP instances, the other ones are JobShop instances.
+ */
+public class RestartBenchmark {
+
+    /**
+     * A scheduling model, with the plain setTimes branching and the branching completing it.
+     */
+    private record Model(CPSolver cp, CPIntervalVar[] tasks, Supplier<Runnable[]> branching,
+                         Supplier<Runnable[]> completion, CPIntVar makespan, Objective obj) {
+
+        static Model of(String instance) {
+            if (instance.endsWith(".rcp")) {
+                RCPSP m = new RCPSP(instance);
+                return new Model(m.cp, m.tasks, m.setTimesSearch(), m.fixMakespan(), m.makespan, m.obj);
+            }
+            JobShop m = new JobShop(instance);
+            return new Model(m.cp, m.activities, setTimes(m.activities), () -> EMPTY, m.makespan, m.obj);
+        }
+    }
+
+    private static class Result {
+        int best = Integer.MAX_VALUE;
+        long timeToBest = -1;
+        long time;
+        boolean completed;
+        int failures;
+    }
+
+    private record Variant(String name, Function<Model, Result> search) {
+    }
+
+    public static void main(String[] args) {
+        long timeLimit = 1000L * (args.length > 0 ? Integer.parseInt(args[0]) : 60);
+        String[] instances = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : shippedInstances();
+
+        List<Variant> variants = List.of(
+                new Variant("dfs-setTimes", m -> dfs(m, timeLimit)),
+                new Variant("norestart-lc", m -> restart(m, timeLimit,
+                        run -> Integer.MAX_VALUE, RestartSearch.Selection.LAST_CONFLICT)),
+                new Variant("norestart-wdeg", m -> restart(m, timeLimit,
+                        run -> Integer.MAX_VALUE, RestartSearch.Selection.DOM_WDEG)),
+                new Variant("restart-luby-lc", m -> restart(m, timeLimit,
+                        RestartPolicy.luby(100), RestartSearch.Selection.LAST_CONFLICT)),
+                new Variant("restart-luby-wdeg", m -> restart(m, timeLimit,
+                        RestartPolicy.luby(100), RestartSearch.Selection.DOM_WDEG)),
+                new Variant("restart-geom-lc", m -> restart(m, timeLimit,
+                        RestartPolicy.geometric(100, 1.5), RestartSearch.Selection.LAST_CONFLICT)),
+                new Variant("restart-geom-wdeg", m -> restart(m, timeLimit,
+                        RestartPolicy.geometric(100, 1.5), RestartSearch.Selection.DOM_WDEG)));
+
+        System.out.format("%-20s %-18s %8s %12s %12s %10s%n",
+                "instance", "search", "best", "timeToBest", "timeToProof", "#fail");
+        for (String instance : instances) {
+            for (Variant variant : variants) {
+                Result r = variant.search().apply(Model.of(instance));
+                System.out.format("%-20s %-18s %8s %12s %12s %10d%n",
+                        new File(instance).getName(), variant.name(),
+                        r.timeToBest < 0 ? "-" : r.best,
+                        r.timeToBest < 0 ? "-" : r.timeToBest + "ms",
+                        r.completed ? r.time + "ms" : "-",
+                        r.failures);
+            }
+        }
+    }
+
+    private static String[] shippedInstances() {
+        return Arrays.stream(new String[]{"data/JOBSHOP", "data/RCPSP"})
+                .flatMap(dir -> Arrays.stream(new File(dir).listFiles()).map(File::getPath).sorted())
+                .toArray(String[]::new);
+    }
+
+    private static Result dfs(Model m, long timeLimit) {
+        Result result = new Result();
+        DFSearch dfs = CPFactory.makeDfs(m.cp(), m.branching());
+        long t0 = System.currentTimeMillis();
+        dfs.onSolution(() -> {
+            result.best = m.makespan().min();
+            result.timeToBest = System.currentTimeMillis() - t0;
+        });
+        SearchStatistics stats = dfs.optimize(m.obj(), s -> System.currentTimeMillis() - t0 >= timeLimit);
+        result.time = System.currentTimeMillis() - t0;
+        result.completed = stats.isCompleted();
+        result.failures = stats.numberOfFailures();
+        return result;
+    }
+
+    private static Result restart(Model m, long timeLimit, RestartPolicy policy, RestartSearch.Selection selection) {
+        Result result = new Result();
+        RestartSearch search = new RestartSearch(m.cp(), m.tasks(), policy, selection, m.completion());
+        long t0 = System.currentTimeMillis();
+        search.onSolution(() -> {
+            result.best = m.makespan().min();
+            result.timeToBest = System.currentTimeMillis() - t0;
+        });
+        RestartSearch.Statistics stats = search.optimize(m.obj(), s -> System.currentTimeMillis() - t0 >= timeLimit);
+        result.time = System.currentTimeMillis() - t0;
+        result.completed = stats.isCompleted();
+        result.failures = stats.numberOfFailures();
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * MaxiCP is under MIT License
+ * Copyright (c)  2024 UCLouvain
+ *
+ */
+
+package org.example.restart;
+
+/**
+ * Gives the maximum number of failures allowed in each run of a {@link RestartSearch}.
+ */
+@FunctionalInterface
+public interface RestartPolicy {
+
+    /**
+     * @param run the index of the run, starting at 0
+     * @return the number of failures after which the run is restarted
+     */
+    int failureLimit(int run);
+
+    /**
+     * Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, ... multiplied by the scale.
+     *
+     * @param scale the number of failures of the shortest runs, must be positive
+     */
+    static RestartPolicy luby(int scale) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("the scale must be positive: " + scale);
+        }
+        return run -> (int) Math.min(Integer.MAX_VALUE, (long) scale * lubyTerm(run + 1));
+    }
+
+    /**
+     * Failure limits base, base * factor, base * factor^2, ...
+     *
+     * @param base   the number of failures of the first run, must be positive
+     * @param factor the growth of the limit between two consecutive runs, at least 1
+     */
+    static RestartPolicy geometric(int base, double factor) {
+        if (base <= 0) {
+            throw new IllegalArgumentException("the base must be positive: " + base);
+        }
+        if (factor < 1) {
+            throw new IllegalArgumentException("the factor must be at least 1: " + factor);
+        }
+        return run -> (int) Math.min(Integer.MAX_VALUE, base * Math.pow(factor, run));
+    }
+
+    /**
+     * @param i the position in the sequence, starting at 1
+     * @return the i-th term of the Luby sequence
+     */
+    static long lubyTerm(int i) {
+        int k = 1;
+        while ((1L << k) - 1 < i) {
+            k++;
+        }
+        if ((1L << k) - 1 == i) {
+            return 1L << (k - 1);
+        }
+        return lubyTerm(i - (1 << (k - 1)) + 1);
+    }
+}
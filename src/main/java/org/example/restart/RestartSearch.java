@@ -0,0 +1,600 @@
+/*
+ * MaxiCP is under MIT License
+ * Copyright (c)  2024 UCLouvain
+ *
+ */
+
+package org.example.restart;
+
+import org.maxicp.cp.CPFactory;
+import org.maxicp.cp.engine.core.CPIntervalVar;
+import org.maxicp.cp.engine.core.CPSolver;
+import org.maxicp.search.DFSearch;
+import org.maxicp.search.Objective;
+import org.maxicp.search.SearchStatistics;
+import org.maxicp.util.exception.InconsistencyException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.maxicp.search.Searches.EMPTY;
+
+/**
+ * Restart-based search fixing the start of the tasks, with nogood recording from restarts.
+ * It replaces the whole {@code makeDfs(cp, setTimes(tasks)).optimize(obj)} call,
+ * with its own {@link Statistics}, and explores a different search tree since it does not postpone tasks.
+ *
+ * <p>Each run is a depth-first search stopped once it reaches the failure limit
+ * given by the {@link RestartPolicy}. A node selects a task and branches on
+ * {@code start = est} (left) or {@code start > est} (right).
+ * When a run is stopped, the reduced nld-nogoods of its last branch are recorded:
+ * for each right decision of the branch, the left decision it refutes
+ * together with the left decisions above it cannot lead to a better solution.
+ * Later runs enforce these nogoods, so that they never explore again a subtree refuted before:
+ * the unary nogoods are applied at the root of each run, and every nogood watches two of
+ * its literals so that only the watch lists of the tasks fixed at the current node are visited.
+ * A unit nogood whose remaining literal is strictly inside the start domain cannot prune yet,
+ * it is kept aside and checked again at each node until it can.
+ *
+ * <p>Lecoutre, C., Sais, L., Tabary, S., & Vidal, V. (2007).
+ * Recording and minimizing nogoods from restarts. JSAT.
+ */
+public class RestartSearch {
+
+    /**
+     * Task selection heuristic.
+     */
+    public enum Selection {
+        /**
+         * The task of the last conflict while it is not fixed,
+         * otherwise the task with the smallest earliest start (ties broken on the latest start).
+         */
+        LAST_CONFLICT,
+        /**
+         * The task with the smallest ratio between the size of its start domain
+         * and the number of failures caused by decisions on this task.
+         */
+        DOM_WDEG
+    }
+
+    private final CPSolver cp;
+    private final CPIntervalVar[] tasks;
+    private final RestartPolicy policy;
+    private final Selection selection;
+    private final Supplier<Runnable[]> completion;
+    private final DFSearch dfs;
+
+    // conflict information, kept from one run to the next
+    private final int[] weight;
+    private int lastConflict = -1;
+    private int current = -1; // task of the last decision or nogood pruning applied
+
+    // decisions from the root to the last node entered, each alternative captures its depth
+    private int depth = 0;
+    private int[] pathTask;
+    private int[] pathValue;
+    private boolean[] pathLeft;
+
+    // tasks fixed by the last alternative applied, the only ones whose watch lists can need a visit
+    private final boolean[] fixedBefore;
+    private final int[] newlyFixed;
+    private int nNewlyFixed = 0;
+    private boolean rootNode = false;
+
+    // nogoods of size 1 (also watched, to detect their violation), and the nogoods watched by each task
+    private final List<Nogood> unaryNogoods = new ArrayList<>();
+    // unit nogoods whose remaining literal was strictly inside its start domain when detected
+    private final List<Nogood> unitNogoods = new ArrayList<>();
+    private final List<Nogood>[] watches;
+    private int nNogoods = 0;
+
+    /**
+     * Restart search with a Luby policy of scale 100 and the last conflict task selection.
+     *
+     * @param cp    the solver
+     * @param tasks the tasks to schedule, they must be present
+     */
+    public RestartSearch(CPSolver cp, CPIntervalVar[] tasks) {
+        this(cp, tasks, RestartPolicy.luby(100), Selection.LAST_CONFLICT);
+    }
+
+    /**
+     * @param cp        the solver
+     * @param tasks     the tasks to schedule, they must be present
+     * @param policy    the failure limit of each run
+     * @param selection the task selection heuristic
+     */
+    public RestartSearch(CPSolver cp, CPIntervalVar[] tasks, RestartPolicy policy, Selection selection) {
+        this(cp, tasks, policy, selection, () -> EMPTY);
+    }
+
+    /**
+     * @param cp         the solver
+     * @param tasks      the tasks to schedule, they must be present
+     * @param policy     the failure limit of each run
+     * @param selection  the task selection heuristic
+     * @param completion branching applied once the start of every task is fixed,
+     *                   for instance to fix the objective variable
+     */
+    @SuppressWarnings("unchecked")
+    public RestartSearch(CPSolver cp, CPIntervalVar[] tasks, RestartPolicy policy, Selection selection,
+                         Supplier<Runnable[]> completion) {
+        this.cp = cp;
+        this.tasks = tasks;
+        this.policy = policy;
+        this.selection = selection;
+        this.completion = completion;
+        this.dfs = CPFactory.makeDfs(cp, this::branching);
+        this.weight = new int[tasks.length];
+        Arrays.fill(weight, 1);
+        this.pathTask = new int[tasks.length + 1];
+        this.pathValue = new int[tasks.length + 1];
+        this.pathLeft = new boolean[tasks.length + 1];
+        this.fixedBefore = new boolean[tasks.length];
+        this.newlyFixed = new int[tasks.length];
+        this.watches = new List[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            watches[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Adds a listener called on each solution, in every run.
+     *
+     * @param listener the listener
+     */
+    public void onSolution(Runnable listener) {
+        dfs.onSolution(listener);
+    }
+
+    /**
+     * @return the number of nogoods recorded so far
+     */
+    public int numberOfNogoods() {
+        return nNogoods;
+    }
+
+    /**
+     * Restarts until optimality is proven.
+     * This only terminates if the failure limits of the policy grow without bound:
+     * a run stopped at the root records no nogood and would be repeated forever.
+     *
+     * @param obj the objective
+     * @return the statistics summed over the runs
+     */
+    public Statistics optimize(Objective obj) {
+        return optimize(obj, stats -> false);
+    }
+
+    /**
+     * Restarts until optimality is proven or the limit is reached.
+     * Without limit, this only terminates if the failure limits of the policy grow without bound.
+     *
+     * @param obj   the objective, its bound is kept from one run to the next
+     * @param limit tested on the statistics summed over the runs,
+     *              the whole search is stopped as soon as it is satisfied
+     * @return the statistics summed over the runs
+     */
+    public Statistics optimize(Objective obj, Predicate<Statistics> limit) {
+        Statistics statistics = new Statistics();
+        for (int run = 0; ; run++) {
+            int failureLimit = policy.failureLimit(run);
+            SearchStatistics runStats = dfs.optimizeSubjectTo(obj, stats -> {
+                statistics.run = stats;
+                if (limit.test(statistics)) {
+                    return true;
+                }
+                if (stats.numberOfFailures() >= failureLimit) {
+                    // the path is still the one of the last node entered, record it before the next run
+                    recordNogoods();
+                    return true;
+                }
+                return false;
+            }, () -> {
+                rootNode = true;
+            });
+            statistics.add(runStats);
+            statistics.nogoods = nNogoods;
+            if (runStats.isCompleted()) {
+                statistics.completed = true;
+                return statistics;
+            }
+            if (limit.test(statistics)) {
+                return statistics;
+            }
+            statistics.restarts++;
+        }
+    }
+
+    private Runnable[] branching() {
+        if (rootNode) {
+            // unary nogoods are permanent, they are applied once at the root of each run
+            rootNode = false;
+            return new Runnable[]{() -> {
+                depth = 0;
+                current = -1;
+                propagate(this::pruneUnaryNogoods, true, new int[0]);
+                resetUnitNogoods();
+            }};
+        }
+        Runnable pruning = propagateNogoods();
+        if (pruning == null) {
+            pruning = propagateUnitNogoods();
+        }
+        if (pruning != null) {
+            return new Runnable[]{pruning};
+        }
+        int t = selectTask();
+        if (t < 0) {
+            return completion.get();
+        }
+        int d = depth;
+        int est = tasks[t].startMin();
+        return new Runnable[]{
+                () -> decide(d, t, est, true),
+                () -> decide(d, t, est, false)};
+    }
+
+    private void decide(int d, int t, int est, boolean left) {
+        if (d == pathTask.length) {
+            pathTask = Arrays.copyOf(pathTask, 2 * d);
+            pathValue = Arrays.copyOf(pathValue, 2 * d);
+            pathLeft = Arrays.copyOf(pathLeft, 2 * d);
+        }
+        pathTask[d] = t;
+        pathValue[d] = est;
+        pathLeft[d] = left;
+        depth = d + 1;
+        current = t;
+        CPIntervalVar task = tasks[t];
+        propagate(() -> {
+            if (left) {
+                task.setStartMax(est);
+            } else {
+                task.setStartMin(est + 1);
+            }
+        }, false, new int[0]);
+    }
+
+    /**
+     * Applies the change and computes the tasks fixed by it.
+     *
+     * @param change  the domain modification
+     * @param root    if every fixed task must be considered as newly fixed
+     * @param pending newly fixed tasks of the parent node whose watch lists were not visited yet
+     */
+    private void propagate(Runnable change, boolean root, int[] pending) {
+        for (int i = 0; i < tasks.length; i++) {
+            fixedBefore[i] = !root && isFixed(i);
+        }
+        try {
+            change.run();
+            cp.fixPoint();
+        } catch (InconsistencyException e) {
+            onFailure();
+            throw e;
+        }
+        nNewlyFixed = 0;
+        for (int t : pending) {
+            newlyFixed[nNewlyFixed++] = t;
+        }
+        for (int i = 0; i < tasks.length; i++) {
+            if (!fixedBefore[i] && isFixed(i)) {
+                newlyFixed[nNewlyFixed++] = i;
+            }
+        }
+    }
+
+    private void onFailure() {
+        if (current >= 0) {
+            weight[current]++;
+            lastConflict = current;
+        }
+    }
+
+    private boolean isFixed(int t) {
+        return tasks[t].startMin() == tasks[t].startMax();
+    }
+
+    private int selectTask() {
+        if (selection == Selection.LAST_CONFLICT && lastConflict >= 0 && !isFixed(lastConflict)) {
+            return lastConflict;
+        }
+        int best = -1;
+        for (int t = 0; t < tasks.length; t++) {
+            if (isFixed(t)) {
+                continue;
+            }
+            if (best < 0 || better(t, best)) {
+                best = t;
+            }
+        }
+        return best;
+    }
+
+    private boolean better(int t, int best) {
+        CPIntervalVar a = tasks[t];
+        CPIntervalVar b = tasks[best];
+        if (selection == Selection.DOM_WDEG) {
+            // compare (size(a) / weight[t]) and (size(b) / weight[best]) without division
+            long ra = (long) (a.startMax() - a.startMin() + 1) * weight[best];
+            long rb = (long) (b.startMax() - b.startMin() + 1) * weight[t];
+            if (ra != rb) {
+                return ra < rb;
+            }
+        }
+        if (a.startMin() != b.startMin()) {
+            return a.startMin() < b.startMin();
+        }
+        return a.startMax() < b.startMax();
+    }
+
+    private void recordNogoods() {
+        int[] leftTask = new int[depth + 1];
+        int[] leftValue = new int[depth + 1];
+        int nLeft = 0;
+        for (int i = 0; i < depth; i++) {
+            if (pathLeft[i]) {
+                leftTask[nLeft] = pathTask[i];
+                leftValue[nLeft] = pathValue[i];
+                nLeft++;
+            } else {
+                // the left decisions above and the refuted left decision form a nogood
+                leftTask[nLeft] = pathTask[i];
+                leftValue[nLeft] = pathValue[i];
+                addNogood(new Nogood(Arrays.copyOf(leftTask, nLeft + 1), Arrays.copyOf(leftValue, nLeft + 1)));
+            }
+        }
+    }
+
+    private void addNogood(Nogood ng) {
+        nNogoods++;
+        if (ng.size() == 1) {
+            unaryNogoods.add(ng);
+            ng.w1 = 0;
+            ng.w2 = 0;
+            watches[ng.task[0]].add(ng);
+        } else {
+            // watch the two deepest literals
+            ng.w1 = ng.size() - 1;
+            ng.w2 = ng.size() - 2;
+            watches[ng.task[ng.w1]].add(ng);
+            watches[ng.task[ng.w2]].add(ng);
+        }
+    }
+
+    private void pruneUnaryNogoods() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Nogood ng : unaryNogoods) {
+                CPIntervalVar task = tasks[ng.task[0]];
+                int v = ng.value[0];
+                if (task.startMin() == v) {
+                    task.setStartMin(v + 1);
+                    cp.fixPoint();
+                    changed = true;
+                } else if (task.startMax() == v) {
+                    task.setStartMax(v - 1);
+                    cp.fixPoint();
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    private boolean entailed(int t, int v) {
+        return tasks[t].startMin() == v && tasks[t].startMax() == v;
+    }
+
+    /**
+     * @return a pruning removing the literal (start(t) = v) from the domain,
+     * or null if v is not a bound of the start domain
+     */
+    private Runnable pruning(int t, int v, int[] pending) {
+        CPIntervalVar task = tasks[t];
+        int d = depth;
+        if (task.startMin() == v) {
+            return () -> {
+                depth = d;
+                current = t;
+                propagate(() -> task.setStartMin(v + 1), false, pending);
+            };
+        }
+        if (task.startMax() == v) {
+            return () -> {
+                depth = d;
+                current = t;
+                propagate(() -> task.setStartMax(v - 1), false, pending);
+            };
+        }
+        return null;
+    }
+
+    /**
+     * Finds a nogood that is violated or unit in the current node.
+     * A literal only becomes entailed when its task is fixed, so a nogood can only
+     * become unit or violated when a task watching it has been fixed by the last alternative.
+     *
+     * @return the pruning enforcing this nogood, or null if no nogood can prune the domains
+     */
+    private Runnable propagateNogoods() {
+        for (int j = 0; j < nNewlyFixed; j++) {
+            int t = newlyFixed[j];
+            List<Nogood> watching = watches[t];
+            int i = 0;
+            while (i < watching.size()) {
+                Nogood ng = watching.get(i);
+                int w = ng.task[ng.w1] == t ? ng.w1 : ng.w2;
+                int other = w == ng.w1 ? ng.w2 : ng.w1;
+                if (!entailed(t, ng.value[w])) {
+                    i++;
+                    continue;
+                }
+                int replacement = -1;
+                for (int k = 0; k < ng.size() && replacement < 0; k++) {
+                    if (k != ng.w1 && k != ng.w2 && !entailed(ng.task[k], ng.value[k])) {
+                        replacement = k;
+                    }
+                }
+                if (replacement >= 0) {
+                    if (w == ng.w1) {
+                        ng.w1 = replacement;
+                    } else {
+                        ng.w2 = replacement;
+                    }
+                    watching.set(i, watching.get(watching.size() - 1));
+                    watching.remove(watching.size() - 1);
+                    watches[ng.task[replacement]].add(ng);
+                    continue;
+                }
+                // all the literals but the other watched one are entailed,
+                // the watch lists not visited yet are visited again after the pruning
+                Runnable r = pruning(ng.task[other], ng.value[other], Arrays.copyOfRange(newlyFixed, j, nNewlyFixed));
+                if (r != null) {
+                    return r;
+                }
+                if (ng.unit < 0 && inside(ng.task[other], ng.value[other])) {
+                    ng.unit = other;
+                    unitNogoods.add(ng);
+                }
+                i++;
+            }
+        }
+        return null;
+    }
+
+    private boolean inside(int t, int v) {
+        return tasks[t].startMin() < v && v < tasks[t].startMax();
+    }
+
+    private boolean isUnit(Nogood ng) {
+        for (int k = 0; k < ng.size(); k++) {
+            if (k != ng.unit && !entailed(ng.task[k], ng.value[k])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks again the unit nogoods that could not prune when they were detected.
+     * A nogood that is not unit anymore (after a backtrack) is removed,
+     * it is detected again by its watched literals if it becomes unit again.
+     *
+     * @return the pruning enforcing one of them, or null if none can prune the domains
+     */
+    private Runnable propagateUnitNogoods() {
+        int i = 0;
+        while (i < unitNogoods.size()) {
+            Nogood ng = unitNogoods.get(i);
+            if (!isUnit(ng)) {
+                ng.unit = -1;
+                unitNogoods.set(i, unitNogoods.get(unitNogoods.size() - 1));
+                unitNogoods.remove(unitNogoods.size() - 1);
+                continue;
+            }
+            Runnable r = pruning(ng.task[ng.unit], ng.value[ng.unit], new int[0]);
+            if (r != null) {
+                return r;
+            }
+            i++;
+        }
+        return null;
+    }
+
+    /**
+     * Called at the root of a run: only the unary nogoods that could not be applied are unit.
+     */
+    private void resetUnitNogoods() {
+        for (Nogood ng : unitNogoods) {
+            ng.unit = -1;
+        }
+        unitNogoods.clear();
+        for (Nogood ng : unaryNogoods) {
+            if (inside(ng.task[0], ng.value[0])) {
+                ng.unit = 0;
+                unitNogoods.add(ng);
+            }
+        }
+    }
+
+    /**
+     * Conjunction of literals start(task[i]) = value[i] that cannot lead to a better solution.
+     */
+    private static class Nogood {
+
+        final int[] task;
+        final int[] value;
+        int w1;
+        int w2;
+        int unit = -1; // index of the remaining literal while in the list of unit nogoods
+
+        Nogood(int[] task, int[] value) {
+            this.task = task;
+            this.value = value;
+        }
+
+        int size() {
+            return task.length;
+        }
+    }
+
+    /**
+     * Statistics of a {@link RestartSearch}, summed over its runs.
+     */
+    public static class Statistics {
+
+        private int restarts = 0;
+        private int nodes = 0;
+        private int failures = 0;
+        private int solutions = 0;
+        private int nogoods = 0;
+        private boolean completed = false;
+        private SearchStatistics run; // statistics of the run in progress, not summed yet
+
+        private void add(SearchStatistics run) {
+            nodes += run.numberOfNodes();
+            failures += run.numberOfFailures();
+            solutions += run.numberOfSolutions();
+            this.run = null;
+        }
+
+        public int numberOfRestarts() {
+            return restarts;
+        }
+
+        public int numberOfNodes() {
+            return nodes + (run == null ? 0 : run.numberOfNodes());
+        }
+
+        public int numberOfFailures() {
+            return failures + (run == null ? 0 : run.numberOfFailures());
+        }
+
+        public int numberOfSolutions() {
+            return solutions + (run == null ? 0 : run.numberOfSolutions());
+        }
+
+        public int numberOfNogoods() {
+            return nogoods;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        @Override
+        public String toString() {
+            return "\n\t#restarts: " + restarts +
+                    "\n\t#choice: " + nodes +
+                    "\n\t#fail: " + failures +
+                    "\n\t#sols : " + solutions +
+                    "\n\t#nogoods: " + nogoods +
+                    "\n\tcompleted: " + completed + "\n";
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.restart;
+
+import org.example.JobShop;
+import org.example.RCPSP;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.maxicp.cp.CPFactory;
+import org.maxicp.search.DFSearch;
+import org.maxicp.search.SearchStatistics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.maxicp.search.Searches.setTimes;
+
+public class RestartSearchTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLuby() {
+        int[] expected = {1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1};
+        RestartPolicy policy = RestartPolicy.luby(10);
+        for (int run = 0; run < expected.length; run++) {
+            assertEquals(10 * expected[run], policy.failureLimit(run));
+        }
+    }
+
+    @Test
+    public void testGeometric() {
+        RestartPolicy policy = RestartPolicy.geometric(100, 2);
+        assertEquals(100, policy.failureLimit(0));
+        assertEquals(200, policy.failureLimit(1));
+        assertEquals(800, policy.failureLimit(3));
+        assertEquals(Integer.MAX_VALUE, policy.failureLimit(100));
+    }
+
+    @Test
+    public void testPolicyArguments() {
+        assertThrows(IllegalArgumentException.class, () -> RestartPolicy.luby(0));
+        assertThrows(IllegalArgumentException.class, () -> RestartPolicy.geometric(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> RestartPolicy.geometric(100, 0.5));
+    }
+
+    @Test(timeout = 60000)
+    public void testJobShopSameOptimum() {
+        String path = "data/JOBSHOP/jobshop-5-5-0";
+        JobShop dfsModel = new JobShop(path);
+        int[] optimum = new int[]{Integer.MAX_VALUE};
+        DFSearch dfs = CPFactory.makeDfs(dfsModel.cp, setTimes(dfsModel.activities));
+        dfs.onSolution(() -> optimum[0] = dfsModel.makespan.min());
+        assertTrue(dfs.optimize(dfsModel.obj).isCompleted());
+
+        for (RestartSearch.Selection selection : RestartSearch.Selection.values()) {
+            JobShop model = new JobShop(path);
+            int[] best = new int[]{Integer.MAX_VALUE};
+            // small failure limits to force many restarts and nogoods
+            RestartSearch search = new RestartSearch(model.cp, model.activities, RestartPolicy.luby(10), selection);
+            search.onSolution(() -> best[0] = model.makespan.min());
+            RestartSearch.Statistics stats = search.optimize(model.obj);
+            assertTrue(stats.isCompleted());
+            assertEquals(optimum[0], best[0]);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testRCPSPOptimum() throws IOException {
+        // a task of duration 3 using the whole capacity, and two parallel tasks of duration 2
+        File instance = folder.newFile("tiny.rcp");
+        Files.writeString(instance.toPath(), String.join("\n",
+                "5 1",
+                "2",
+                "0 0 3 2 3 4",
+                "3 2 1 5",
+                "2 1 1 5",
+                "2 1 1 5",
+                "0 0 0"));
+
+        RCPSP model = new RCPSP(instance.getPath());
+        int[] best = new int[]{Integer.MAX_VALUE};
+        RestartSearch search = new RestartSearch(model.cp, model.tasks, RestartPolicy.geometric(1, 1.5),
+                RestartSearch.Selection.DOM_WDEG, model.fixMakespan());
+        search.onSolution(() -> {
+            assertTrue(model.makespan.isFixed());
+            best[0] = model.makespan.min();
+        });
+        RestartSearch.Statistics stats = search.optimize(model.obj);
+        assertTrue(stats.isCompleted());
+        assertEquals(5, best[0]);
+    }
+
+    @Test(timeout = 60000)
+    public void testLimitOverAllRuns() {
+        JobShop model = new JobShop("data/JOBSHOP/ft10.txt");
+        RestartSearch search = new RestartSearch(model.cp, model.activities, RestartPolicy.luby(10),
+                RestartSearch.Selection.LAST_CONFLICT);
+        RestartSearch.Statistics stats = search.optimize(model.obj, s -> s.numberOfFailures() > 200);
+        assertFalse(stats.isCompleted());
+        assertTrue(stats.numberOfRestarts() > 0);
+        assertTrue(stats.numberOfFailures() > 200);
+        assertTrue(stats.numberOfFailures() < 300);
+    }
+}